@@ -0,0 +1,374 @@
+package com.coindirect.recruitment.cluster;
+
+import com.coindirect.recruitment.exception.model.NodeUnavailableException;
+import com.coindirect.recruitment.exception.model.NotRowOwnerException;
+import com.coindirect.recruitment.exception.model.PartialReleaseException;
+import com.coindirect.recruitment.model.Booking;
+import com.coindirect.recruitment.model.dto.CreateBookingRequestDto;
+import com.coindirect.recruitment.model.dto.JoinResponseDto;
+import com.coindirect.recruitment.model.dto.ReleaseRowsRequestDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Cluster membership and request routing.
+ * Hall rows are assigned to nodes with a consistent-hash ring; the owner of a row keeps its
+ * occupancy in memory and every other node forwards create and availability requests to it.
+ * <p>
+ * Membership is kept in sync by a heartbeat: every node periodically joins every node it knows,
+ * learning the nodes they know in turn. A node is added to the ring only once it has been reached,
+ * and removed after {@code maxMissedHeartbeats} failed heartbeats in a row, which is then announced
+ * to the remaining nodes and to the removed node itself. A removed node that comes back rejoins
+ * with its own heartbeat.
+ * <p>
+ * Every change of membership drops all cached rows, and so does a join showing that another node
+ * had removed this one, since that node may have changed this node's rows in the meantime.
+ * A node serves no rows until its first synchronization has finished, nor after being removed
+ * until it has rejoined.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "booking.cluster.enabled", havingValue = "true")
+public class BookingCluster {
+
+    private final String self;
+    private final List<String> seeds;
+    private final int maxMissedHeartbeats;
+    private final ReservationState reservationState;
+    private final ClusterClient clusterClient;
+    private final Map<String, Integer> missedHeartbeats = new ConcurrentHashMap<>();
+    private volatile ConsistentHashRing ring;
+    // false do zakończenia pierwszej synchronizacji oraz po usunięciu tego węzła przez pozostałe
+    private volatile boolean ready;
+    // liczba usunięć tego węzła przez pozostałe węzły
+    private volatile long evictions;
+
+    @Autowired
+    public BookingCluster(ClusterProperties properties, ReservationState reservationState, ClusterClient clusterClient) {
+        if (properties.getNodeUrl() == null) {
+            throw new IllegalStateException("booking.cluster.node-url must be set in cluster mode");
+        }
+        this.self = properties.getNodeUrl();
+        this.seeds = List.copyOf(properties.getSeeds());
+        this.maxMissedHeartbeats = properties.getMaxMissedHeartbeats();
+        this.reservationState = reservationState;
+        this.clusterClient = clusterClient;
+        this.ring = new ConsistentHashRing(properties.getVirtualNodes()).withNode(self);
+        rebalance();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void announce() {
+        final var evictionsBefore = evictions;
+        synchronize();
+        markReady(evictionsBefore);
+    }
+
+    @Scheduled(fixedDelayString = "${booking.cluster.heartbeat-interval:5000}",
+        initialDelayString = "${booking.cluster.heartbeat-interval:5000}")
+    public void heartbeat() {
+        final var evictionsBefore = evictions;
+        synchronize().forEach(this::missedHeartbeat);
+        markReady(evictionsBefore);
+    }
+
+    @PreDestroy
+    public void depart() {
+        for (String node : ring.nodes()) {
+            if (node.equals(self)) {
+                continue;
+            }
+            try {
+                clusterClient.leave(node, self);
+            } catch (RestClientException e) {
+                log.warn("Could not notify {} about leaving: {}", node, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Adds a node to the cluster.
+     *
+     * @param node  url of the joining node
+     * @param nodes nodes known to the joining node
+     * @return all nodes known after the join, and whether the joining node was added by it
+     */
+    public synchronized JoinResponseDto join(String node, Set<String> nodes) {
+        if (!nodes.contains(self)) {
+            // dołączający węzeł mógł nas wcześniej usunąć i zmieniać nasze wiersze
+            rebalance();
+        }
+        final var added = !ring.contains(node);
+        merge(Set.of(node));
+        return new JoinResponseDto(ring.nodes(), added);
+    }
+
+    public synchronized void leave(String node) {
+        if (node.equals(self)) {
+            // pozostałe węzły przejęły już wiersze tego węzła
+            log.warn("This node was removed from the cluster, it serves no rows until it rejoins");
+            evictions++;
+            ready = false;
+            rebalance();
+        } else if (ring.contains(node)) {
+            ring = ring.withoutNode(node);
+            rebalance();
+        }
+    }
+
+    public Set<String> nodes() {
+        return ring.nodes();
+    }
+
+    public boolean isLocal(int row) {
+        return ready && self.equals(ring.ownerOf(row));
+    }
+
+    public Booking createBooking(CreateBookingRequestDto request, Supplier<Booking> save) {
+        return route(request.row,
+            () -> createLocalBooking(request, save),
+            owner -> clusterClient.createBooking(owner, request));
+    }
+
+    public Booking createLocalBooking(CreateBookingRequestDto request, Supplier<Booking> save) {
+        return reservationState.reserve(request.row, request.column, save);
+    }
+
+    public boolean isAvailable(int row, int column) {
+        return route(row,
+            () -> isLocallyAvailable(row, column),
+            owner -> clusterClient.isAvailable(owner, row, column));
+    }
+
+    public boolean isLocallyAvailable(int row, int column) {
+        return reservationState.isFree(row, column);
+    }
+
+    public void cancelBooking(int row, int column, UUID bookingId, Runnable delete) {
+        route(row,
+            () -> {
+                cancelLocalBooking(row, column, delete);
+                return null;
+            },
+            owner -> {
+                clusterClient.cancelBooking(owner, row, column, bookingId);
+                return null;
+            });
+    }
+
+    public void cancelLocalBooking(int row, int column, Runnable delete) {
+        reservationState.release(row, column, delete);
+    }
+
+    /**
+     * Releases the rectangle by sending each owner its own rows. Every owner runs one DELETE
+     * for its rows while holding their locks, so its occupancy is updated together with the database.
+     * Rows refused by their owner are sent once more to the owners known after a refresh.
+     * <p>
+     * The release is atomic per owner but not across owners: when an owner cannot release its rows,
+     * the rows released by the other owners stay released and their count is reported
+     * with {@link PartialReleaseException}.
+     *
+     * @param delete deletes the bookings of the given rows within the rectangle's columns
+     * @return number of released bookings
+     */
+    public int cancelBookingsInArea(int fromRow, int fromColumn, int toRow, int toColumn, ToIntFunction<List<Integer>> delete) {
+        var released = 0;
+        try {
+            final var rows = IntStream.rangeClosed(fromRow, toRow)
+                .boxed()
+                .collect(toList());
+            for (var entry : groupByOwner(rows).entrySet()) {
+                try {
+                    released += cancelBookingsInRows(entry.getKey(), entry.getValue(), fromColumn, toColumn, delete);
+                } catch (NotRowOwnerException e) {
+                    // właściciel nic nie zwolnił - jego wiersze wysyłamy do właścicieli znanych po odświeżeniu
+                    refresh(entry.getKey());
+                    for (var retry : groupByOwner(entry.getValue()).entrySet()) {
+                        released += cancelBookingsInRows(retry.getKey(), retry.getValue(), fromColumn, toColumn, delete);
+                    }
+                }
+            }
+        } catch (NotRowOwnerException | NodeUnavailableException e) {
+            throw new PartialReleaseException(released, e);
+        }
+        return released;
+    }
+
+    public int cancelLocalBookingsInRows(List<Integer> rows, int fromColumn, int toColumn, ToIntFunction<List<Integer>> delete) {
+        final var sortedRows = rows.stream()
+            .distinct()
+            .sorted()
+            .collect(toList());
+        return reservationState.releaseRows(sortedRows, fromColumn, toColumn, () -> delete.applyAsInt(sortedRows));
+    }
+
+    private int cancelBookingsInRows(String owner, List<Integer> rows, int fromColumn, int toColumn,
+                                     ToIntFunction<List<Integer>> delete) {
+        if (owner.equals(self)) {
+            return cancelLocalBookingsInRows(rows, fromColumn, toColumn, delete);
+        }
+        return forward(owner, node -> clusterClient.cancelBookingsInRows(node, new ReleaseRowsRequestDto(rows, fromColumn, toColumn)));
+    }
+
+    private Map<String, List<Integer>> groupByOwner(List<Integer> rows) {
+        return rows.stream().collect(groupingBy(this::ownerOf, TreeMap::new, toList()));
+    }
+
+    // Gdy właściciel odrzuci żądanie, bo ma inny widok klastra, pobieramy od niego listę węzłów i próbujemy raz jeszcze.
+    // Odrzucone żądanie nie zostało wykonane, więc można je bezpiecznie ponowić.
+    // Po błędzie połączenia nie ponawiamy - właściciel mógł już zapisać rezerwację.
+    private <T> T route(int row, Supplier<T> local, Function<String, T> remote) {
+        final var owner = ownerOf(row);
+        try {
+            return call(owner, local, remote);
+        } catch (NotRowOwnerException e) {
+            refresh(owner);
+        }
+        final var refreshedOwner = ownerOf(row);
+        try {
+            return call(refreshedOwner, local, remote);
+        } catch (NotRowOwnerException e) {
+            // węzły nadal nie zgadzają się co do właściciela - zmiana składu klastra jeszcze trwa
+            throw new NodeUnavailableException(refreshedOwner, e);
+        }
+    }
+
+    private <T> T call(String owner, Supplier<T> local, Function<String, T> remote) {
+        return owner.equals(self) ? local.get() : forward(owner, remote);
+    }
+
+    private <T> T forward(String owner, Function<String, T> remote) {
+        try {
+            return remote.apply(owner);
+        } catch (ResourceAccessException e) {
+            throw new NodeUnavailableException(owner, e);
+        }
+    }
+
+    private String ownerOf(int row) {
+        if (!ready) {
+            throw new NodeUnavailableException(self);
+        }
+        return ring.ownerOf(row);
+    }
+
+    // Dodaje węzły znane właścicielowi, który odrzucił żądanie. Nie liczy nieudanych heartbeatów -
+    // o usunięciu węzła decyduje tylko heartbeat. Własny pierścień jest już aktualny.
+    private void refresh(String owner) {
+        if (owner.equals(self)) {
+            return;
+        }
+        try {
+            merge(clusterClient.nodes(owner));
+        } catch (RestClientException e) {
+            log.warn("Could not refresh nodes from {}: {}", owner, e.getMessage());
+        }
+    }
+
+    // Dołącza do wszystkich znanych węzłów oraz do węzłów, o których dowiaduje się od nich.
+    // Zwraca węzły, do których nie udało się dołączyć.
+    private Map<String, RestClientException> synchronize() {
+        final var unreachable = new HashMap<String, RestClientException>();
+        final var contacted = new HashSet<>(Set.of(self));
+        final var pending = new ArrayDeque<>(seeds);
+        pending.addAll(ring.nodes());
+        while (!pending.isEmpty()) {
+            final var node = pending.poll();
+            if (!contacted.add(node)) {
+                continue;
+            }
+            try {
+                final var response = clusterClient.join(node, self, ring.nodes());
+                pending.addAll(response.nodes);
+                missedHeartbeats.remove(node);
+                if (response.added && ring.contains(node)) {
+                    // węzeł usunął nas wcześniej i mógł w tym czasie zmieniać nasze wiersze
+                    rebalance();
+                }
+                merge(Set.of(node));
+            } catch (RestClientException e) {
+                unreachable.put(node, e);
+            }
+        }
+        return unreachable;
+    }
+
+    private synchronized void merge(Set<String> nodes) {
+        final var current = ring;
+        for (String node : nodes) {
+            if (!ring.contains(node)) {
+                ring = ring.withNode(node);
+            }
+        }
+        if (ring != current) {
+            rebalance();
+        }
+    }
+
+    // Węzeł zaczyna obsługiwać wiersze tylko, jeśli w trakcie synchronizacji nie został usunięty.
+    private synchronized void markReady(long evictionsBefore) {
+        if (evictions == evictionsBefore && !ready) {
+            ready = true;
+            log.info("Node {} serves rows of nodes {}", self, ring.nodes());
+        }
+    }
+
+    private void missedHeartbeat(String node, RestClientException e) {
+        if (!ring.contains(node)) {
+            log.debug("Node {} is not reachable yet: {}", node, e.getMessage());
+            return;
+        }
+        final int missed = missedHeartbeats.merge(node, 1, Integer::sum);
+        log.warn("Node {} missed heartbeat {} of {}: {}", node, missed, maxMissedHeartbeats, e.getMessage());
+        if (missed >= maxMissedHeartbeats) {
+            missedHeartbeats.remove(node);
+            evict(node);
+        }
+    }
+
+    // Usunięty węzeł też jest powiadamiany - jeśli nadal działa, przestaje obsługiwać swoje wiersze.
+    private void evict(String node) {
+        log.warn("Removing node {} from the cluster", node);
+        leave(node);
+        final var notified = new HashSet<>(ring.nodes());
+        notified.remove(self);
+        notified.add(node);
+        for (String other : notified) {
+            try {
+                clusterClient.leave(other, node);
+            } catch (RestClientException e) {
+                log.warn("Could not notify {} about removal of {}: {}", other, node, e.getMessage());
+            }
+        }
+    }
+
+    private void rebalance() {
+        reservationState.reset(this::isLocal);
+    }
+}
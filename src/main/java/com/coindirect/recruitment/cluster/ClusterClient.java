@@ -0,0 +1,127 @@
+package com.coindirect.recruitment.cluster;
+
+import com.coindirect.recruitment.exception.model.BookingNotFoundException;
+import com.coindirect.recruitment.exception.model.NotRowOwnerException;
+import com.coindirect.recruitment.exception.model.PlaceAlreadyBookedException;
+import com.coindirect.recruitment.model.Booking;
+import com.coindirect.recruitment.model.dto.BookingDto;
+import com.coindirect.recruitment.model.dto.CreateBookingRequestDto;
+import com.coindirect.recruitment.model.dto.JoinRequestDto;
+import com.coindirect.recruitment.model.dto.JoinResponseDto;
+import com.coindirect.recruitment.model.dto.ReleaseRowsRequestDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.coindirect.recruitment.cluster.ClusterSecretInterceptor.SECRET_HEADER;
+
+/**
+ * HTTP client used to talk to other nodes of the cluster.
+ * A 409 from a node means it does not own the row and is reported as {@link NotRowOwnerException}.
+ */
+@Component
+@ConditionalOnProperty(name = "booking.cluster.enabled", havingValue = "true")
+public class ClusterClient {
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ClusterClient(RestTemplateBuilder restTemplateBuilder, ClusterProperties properties, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.restTemplate = restTemplateBuilder
+            .setConnectTimeout(Duration.ofSeconds(1))
+            .setReadTimeout(Duration.ofSeconds(5))
+            .defaultHeader(SECRET_HEADER, properties.getSecret())
+            .build();
+    }
+
+    public Booking createBooking(String node, CreateBookingRequestDto request) {
+        try {
+            final var response = restTemplate.postForObject(node + "/cluster/create", request, BookingDto.class);
+            return new Booking(response.bookingId, response.name, response.row, response.column);
+        } catch (HttpClientErrorException.UnprocessableEntity e) {
+            throw new PlaceAlreadyBookedException();
+        } catch (HttpClientErrorException.Conflict e) {
+            throw new NotRowOwnerException(request.row);
+        }
+    }
+
+    public boolean isAvailable(String node, int row, int column) {
+        try {
+            final var response = restTemplate.getForObject(node + "/cluster/isAvailable/{row}/{column}", JsonNode.class, row, column);
+            return response.get("available").asBoolean();
+        } catch (HttpClientErrorException.Conflict e) {
+            throw new NotRowOwnerException(row);
+        }
+    }
+
+    /**
+     * Cancels a booking on {@code node}, by id when {@code bookingId} is given, by position otherwise.
+     */
+    public void cancelBooking(String node, int row, int column, UUID bookingId) {
+        try {
+            if (bookingId == null) {
+                restTemplate.delete(node + "/cluster/cancelByPosition/{row}/{column}", row, column);
+            } else {
+                restTemplate.delete(node + "/cluster/cancelByBookingId/{row}/{column}/{bookingId}", row, column, bookingId);
+            }
+        } catch (HttpClientErrorException.UnprocessableEntity e) {
+            throw bookingId == null ? new BookingNotFoundException(row, column) : new BookingNotFoundException(bookingId);
+        } catch (HttpClientErrorException.Conflict e) {
+            throw new NotRowOwnerException(row);
+        }
+    }
+
+    /**
+     * Releases bookings in rows owned by {@code node}.
+     * Nothing is released when {@code node} does not own all the rows.
+     *
+     * @return number of released bookings
+     */
+    public int cancelBookingsInRows(String node, ReleaseRowsRequestDto request) {
+        try {
+            final var response = restTemplate.postForObject(node + "/cluster/cancelRows", request, JsonNode.class);
+            return response.get("released").asInt();
+        } catch (HttpClientErrorException.Conflict e) {
+            throw new NotRowOwnerException(refusedRow(e));
+        }
+    }
+
+    /**
+     * Announces {@code joining} to {@code node}.
+     *
+     * @param nodes nodes known to {@code joining}
+     * @return the nodes known to {@code node} after the join, and whether it added {@code joining}
+     */
+    public JoinResponseDto join(String node, String joining, Set<String> nodes) {
+        return restTemplate.postForObject(node + "/cluster/join", new JoinRequestDto(joining, nodes), JoinResponseDto.class);
+    }
+
+    public Set<String> nodes(String node) {
+        return Set.of(restTemplate.getForObject(node + "/cluster/nodes", String[].class));
+    }
+
+    public void leave(String node, String leaving) {
+        restTemplate.postForLocation(node + "/cluster/leave", leaving);
+    }
+
+    // Wiersz, którego węzeł nie jest właścicielem, jest podawany w treści odpowiedzi 409.
+    private int refusedRow(HttpClientErrorException e) {
+        try {
+            return objectMapper.readTree(e.getResponseBodyAsString()).get("row").asInt();
+        } catch (JsonProcessingException ex) {
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.coindirect.recruitment.cluster;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Cluster mode wiring: heartbeat scheduling and the shared-secret check on the node-to-node endpoints.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "booking.cluster.enabled", havingValue = "true")
+public class ClusterConfiguration implements WebMvcConfigurer {
+
+    private final ClusterProperties properties;
+
+    @Autowired
+    public ClusterConfiguration(ClusterProperties properties) {
+        if (properties.getSecret() == null || properties.getSecret().isBlank()) {
+            throw new IllegalStateException("booking.cluster.secret must be set in cluster mode");
+        }
+        this.properties = properties;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ClusterSecretInterceptor(properties.getSecret()))
+            .addPathPatterns("/cluster/**");
+    }
+}
@@ -0,0 +1,136 @@
+package com.coindirect.recruitment.cluster;
+
+import com.coindirect.recruitment.model.Booking;
+import com.coindirect.recruitment.model.dto.BookingAvailabilityDto;
+import com.coindirect.recruitment.model.dto.BookingDto;
+import com.coindirect.recruitment.model.dto.CreateBookingRequestDto;
+import com.coindirect.recruitment.model.dto.JoinRequestDto;
+import com.coindirect.recruitment.model.dto.JoinResponseDto;
+import com.coindirect.recruitment.model.dto.ReleaseRowsRequestDto;
+import com.coindirect.recruitment.model.dto.ReleasedBookingsDto;
+import com.coindirect.recruitment.service.BookingService;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Node-to-node endpoints used in cluster mode.
+ */
+@RestController
+@RequestMapping("cluster")
+@ConditionalOnProperty(name = "booking.cluster.enabled", havingValue = "true")
+public class ClusterController {
+
+    private final BookingCluster bookingCluster;
+    private final BookingService bookingService;
+
+    @Autowired
+    public ClusterController(BookingCluster bookingCluster, BookingService bookingService) {
+        this.bookingCluster = bookingCluster;
+        this.bookingService = bookingService;
+    }
+
+    /**
+     * Adds a node to the cluster.
+     *
+     * @param joinRequestDto url of the joining node and the nodes it knows
+     * @return all nodes known after the join, and whether the joining node was added by it
+     */
+    @PostMapping("join")
+    public ResponseEntity<JoinResponseDto> join(@Valid @RequestBody JoinRequestDto joinRequestDto) {
+        return ResponseEntity.ok(bookingCluster.join(joinRequestDto.node, joinRequestDto.nodes));
+    }
+
+    /**
+     * Removes a node from the cluster.
+     *
+     * @param node url of the leaving node
+     */
+    @PostMapping("leave")
+    public ResponseEntity<Void> leave(@RequestBody String node) {
+        bookingCluster.leave(node);
+        return ResponseEntity.ok().build();
+    }
+
+    @GetMapping("nodes")
+    public ResponseEntity<Set<String>> nodes() {
+        return ResponseEntity.ok(bookingCluster.nodes());
+    }
+
+    /**
+     * Creates a booking forwarded by another node. Never forwarded again.
+     *
+     * @param createBookingRequestDto the requested booking details.
+     * @return on success booking details. on failure error message.
+     */
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = BookingDto.class)))
+    @PostMapping("create")
+    public ResponseEntity<Booking> createBooking(@Valid @RequestBody CreateBookingRequestDto createBookingRequestDto) {
+        return ResponseEntity.ok(bookingService.createLocalBooking(createBookingRequestDto));
+    }
+
+    /**
+     * Availability query forwarded by another node. Never forwarded again.
+     *
+     * @param row    grid position row
+     * @param column grid position column
+     * @return true if cell is available. false if not
+     */
+    @GetMapping("isAvailable/{row}/{column}")
+    public ResponseEntity<BookingAvailabilityDto> isAvailable(@PathVariable int row, @PathVariable int column) {
+        final var response = BookingAvailabilityDto.of(bookingService.isLocallyAvailable(row, column));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Cancellation by position forwarded by another node. Never forwarded again.
+     *
+     * @param row    grid position row
+     * @param column grid position column
+     */
+    @DeleteMapping("cancelByPosition/{row}/{column}")
+    public ResponseEntity<Void> cancelBookingByPosition(@PathVariable int row, @PathVariable int column) {
+        bookingService.cancelLocalBooking(row, column, null);
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * Cancellation by booking id forwarded by another node. Never forwarded again.
+     *
+     * @param row       grid position row of the booking
+     * @param column    grid position column of the booking
+     * @param bookingId booking id
+     */
+    @DeleteMapping("cancelByBookingId/{row}/{column}/{bookingId}")
+    public ResponseEntity<Void> cancelBookingById(@PathVariable int row, @PathVariable int column, @PathVariable UUID bookingId) {
+        bookingService.cancelLocalBooking(row, column, bookingId);
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * Bulk release of rows owned by this node, forwarded by another node. Never forwarded again.
+     *
+     * @param releaseRowsRequestDto rows and column range to release
+     * @return number of released bookings
+     */
+    @PostMapping("cancelRows")
+    public ResponseEntity<ReleasedBookingsDto> cancelBookingsInRows(@Valid @RequestBody ReleaseRowsRequestDto releaseRowsRequestDto) {
+        final var response = new ReleasedBookingsDto(bookingService.cancelLocalBookingsInRows(
+            releaseRowsRequestDto.rows, releaseRowsRequestDto.fromColumn, releaseRowsRequestDto.toColumn));
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,31 @@
+package com.coindirect.recruitment.cluster;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cluster mode settings, bound from the {@code booking.cluster.*} properties.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "booking.cluster")
+public class ClusterProperties {
+
+    // gdy false aplikacja działa jako pojedynczy węzeł, jak dotychczas
+    private boolean enabled;
+    // adres, pod którym pozostałe węzły widzą ten węzeł, np. http://localhost:8081
+    private String nodeUrl;
+    // węzły, do których ten węzeł zgłasza się przy starcie
+    private List<String> seeds = new ArrayList<>();
+    private int virtualNodes = 128;
+    // wspólny sekret wymagany przez endpointy /cluster/**, przesyłany w nagłówku X-Cluster-Secret
+    private String secret;
+    // co ile milisekund węzeł sprawdza pozostałe węzły i ponownie się do nich zgłasza
+    private long heartbeatInterval = 5000;
+    // po tylu kolejnych nieudanych próbach węzeł jest usuwany z klastra
+    private int maxMissedHeartbeats = 3;
+}
@@ -0,0 +1,36 @@
+package com.coindirect.recruitment.cluster;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.security.MessageDigest;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static javax.servlet.http.HttpServletResponse.SC_UNAUTHORIZED;
+
+/**
+ * Rejects node-to-node requests that do not carry the cluster's shared secret.
+ */
+public class ClusterSecretInterceptor implements HandlerInterceptor {
+
+    public static final String SECRET_HEADER = "X-Cluster-Secret";
+
+    private final byte[] secret;
+
+    public ClusterSecretInterceptor(String secret) {
+        this.secret = secret.getBytes(UTF_8);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        final var provided = request.getHeader(SECRET_HEADER);
+        // porównanie w stałym czasie, żeby nie zdradzać sekretu przez czas odpowiedzi
+        if (provided == null || !MessageDigest.isEqual(secret, provided.getBytes(UTF_8))) {
+            response.sendError(SC_UNAUTHORIZED);
+            return false;
+        }
+        return true;
+    }
+}
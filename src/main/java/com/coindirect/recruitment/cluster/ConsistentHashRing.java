@@ -0,0 +1,74 @@
+package com.coindirect.recruitment.cluster;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Immutable consistent-hash ring assigning hall rows to cluster nodes.
+ * Each node is placed on the ring several times (virtual nodes), so rows spread evenly
+ * and only the rows next to a joining or leaving node change their owner.
+ */
+public final class ConsistentHashRing {
+
+    private static final HashFunction HASH = Hashing.murmur3_128();
+
+    private final int virtualNodes;
+    private final NavigableMap<Long, String> ring;
+
+    public ConsistentHashRing(int virtualNodes) {
+        this(virtualNodes, new TreeMap<>());
+    }
+
+    private ConsistentHashRing(int virtualNodes, NavigableMap<Long, String> ring) {
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("virtualNodes must be positive");
+        }
+        this.virtualNodes = virtualNodes;
+        this.ring = ring;
+    }
+
+    public ConsistentHashRing withNode(String node) {
+        final var copy = new TreeMap<>(ring);
+        for (int i = 0; i < virtualNodes; i++) {
+            copy.put(hash(node, i), node);
+        }
+        return new ConsistentHashRing(virtualNodes, copy);
+    }
+
+    public ConsistentHashRing withoutNode(String node) {
+        final var copy = new TreeMap<>(ring);
+        copy.values().removeIf(node::equals);
+        return new ConsistentHashRing(virtualNodes, copy);
+    }
+
+    public String ownerOf(int row) {
+        if (ring.isEmpty()) {
+            throw new IllegalStateException("No nodes in the cluster");
+        }
+        final var entry = ring.ceilingEntry(HASH.hashInt(row).asLong());
+        return (entry != null ? entry : ring.firstEntry()).getValue();
+    }
+
+    public boolean contains(String node) {
+        return ring.containsValue(node);
+    }
+
+    public Set<String> nodes() {
+        return new TreeSet<>(ring.values());
+    }
+
+    private static long hash(String node, int replica) {
+        return HASH.newHasher()
+            .putString(node, UTF_8)
+            .putInt(replica)
+            .hash()
+            .asLong();
+    }
+}
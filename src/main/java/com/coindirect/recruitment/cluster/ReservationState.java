@@ -0,0 +1,194 @@
+package com.coindirect.recruitment.cluster;
+
+import com.coindirect.recruitment.exception.model.NotRowOwnerException;
+import com.coindirect.recruitment.exception.model.PlaceAlreadyBookedException;
+import com.coindirect.recruitment.model.Booking;
+import com.coindirect.recruitment.repository.BookingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * In-memory occupancy of the rows owned by this node.
+ * A row is loaded from the database the first time it is touched and dropped again
+ * whenever the cluster membership changes, so it never has to be handed over explicitly
+ * and changes made by other nodes in the meantime are always read back.
+ * Every operation on a row, including its eviction, holds the lock of the row's {@link BitSet}.
+ */
+@Component
+@ConditionalOnProperty(name = "booking.cluster.enabled", havingValue = "true")
+public class ReservationState {
+
+    private final BookingRepository bookingRepository;
+    // zajęte kolumny dla każdego wiersza należącego do tego węzła
+    private final Map<Integer, BitSet> rows = new ConcurrentHashMap<>();
+    // wiersze, których właścicielem jest ten węzeł; ustawiane przez reset
+    private volatile IntPredicate owned = row -> true;
+
+    @Autowired
+    public ReservationState(BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+    }
+
+    /**
+     * Runs {@code save} only if the cell is free. Bookings of one row are serialized on the row,
+     * so the owner never races against itself on the unique constraint.
+     */
+    public Booking reserve(int row, int column, Supplier<Booking> save) {
+        return withRow(row, columns -> {
+            if (columns.get(column)) {
+                throw new PlaceAlreadyBookedException();
+            }
+            try {
+                final var booking = save.get();
+                columns.set(column);
+                return booking;
+            } catch (DataIntegrityViolationException e) {
+                // miejsce zajęte poza tym węzłem, np. przez poprzedniego właściciela wiersza
+                columns.set(column);
+                throw new PlaceAlreadyBookedException();
+            }
+        });
+    }
+
+    /**
+     * Runs {@code delete} and frees the cell, serialized with bookings of the same row.
+     */
+    public void release(int row, int column, Runnable delete) {
+        withRow(row, columns -> {
+            delete.run();
+            columns.clear(column);
+            return null;
+        });
+    }
+
+    public boolean isFree(int row, int column) {
+        return withRow(row, columns -> !columns.get(column));
+    }
+
+    /**
+     * Restricts this node to the rows for which {@code owned} is true and forgets every cached row,
+     * so owned rows are loaded from the database again when next touched.
+     * Returns once no operation on a forgotten row is in progress any more.
+     */
+    public void reset(IntPredicate owned) {
+        this.owned = owned;
+        for (Integer row : List.copyOf(rows.keySet())) {
+            evictRow(row);
+        }
+    }
+
+    /**
+     * Runs {@code delete} with the locks of all {@code rows} held and frees the columns from
+     * {@code fromColumn} to {@code toColumn} in each of them.
+     *
+     * @param rows distinct rows in ascending order, the order in which their locks are taken
+     * @return the result of {@code delete}
+     */
+    public int releaseRows(List<Integer> rows, int fromColumn, int toColumn, IntSupplier delete) {
+        while (true) {
+            for (int row : rows) {
+                if (!owned.test(row)) {
+                    throw new NotRowOwnerException(row);
+                }
+            }
+            // brakujące wiersze wczytujemy jednym zapytaniem, zamiast osobno dla każdego wiersza
+            final var loaded = load(rows);
+            final var columns = new ArrayList<BitSet>(rows.size());
+            for (int row : rows) {
+                columns.add(this.rows.computeIfAbsent(row, loaded::get));
+            }
+            final var released = releaseLocked(rows, columns, 0, fromColumn, toColumn, delete);
+            if (released != null) {
+                return released;
+            }
+        }
+    }
+
+    private <T> T withRow(int row, Function<BitSet, T> action) {
+        while (true) {
+            if (!owned.test(row)) {
+                throw new NotRowOwnerException(row);
+            }
+            final var columns = rows.computeIfAbsent(row, this::load);
+            synchronized (columns) {
+                if (!owned.test(row)) {
+                    rows.remove(row, columns);
+                    throw new NotRowOwnerException(row);
+                }
+                // wiersz mógł zostać usunięty, zanim uzyskaliśmy blokadę - wtedy wczytujemy go ponownie
+                if (rows.get(row) == columns) {
+                    return action.apply(columns);
+                }
+            }
+        }
+    }
+
+    // Blokady są zakładane rekurencyjnie, po kolei dla każdego wiersza.
+    // Zwraca null, gdy któryś wiersz został w międzyczasie usunięty i trzeba spróbować ponownie.
+    private Integer releaseLocked(List<Integer> rows, List<BitSet> columns, int index,
+                                  int fromColumn, int toColumn, IntSupplier delete) {
+        if (index < columns.size()) {
+            synchronized (columns.get(index)) {
+                return releaseLocked(rows, columns, index + 1, fromColumn, toColumn, delete);
+            }
+        }
+        NotRowOwnerException notOwned = null;
+        var current = true;
+        for (int i = 0; i < rows.size(); i++) {
+            final int row = rows.get(i);
+            if (!owned.test(row)) {
+                this.rows.remove(row, columns.get(i));
+                notOwned = new NotRowOwnerException(row);
+            } else if (this.rows.get(row) != columns.get(i)) {
+                current = false;
+            }
+        }
+        if (notOwned != null) {
+            throw notOwned;
+        }
+        if (!current) {
+            return null;
+        }
+        final var released = delete.getAsInt();
+        columns.forEach(rowColumns -> rowColumns.clear(fromColumn, toColumn + 1));
+        return released;
+    }
+
+    private void evictRow(Integer row) {
+        final var columns = rows.get(row);
+        if (columns == null) {
+            return;
+        }
+        synchronized (columns) {
+            rows.remove(row, columns);
+        }
+    }
+
+    private Map<Integer, BitSet> load(List<Integer> rows) {
+        final var loaded = new HashMap<Integer, BitSet>();
+        rows.forEach(row -> loaded.put(row, new BitSet()));
+        bookingRepository.findAllByPositionRowIn(rows)
+            .forEach(booking -> loaded.get(booking.getPositionRow()).set(booking.getPositionColumn()));
+        return loaded;
+    }
+
+    private BitSet load(int row) {
+        final var columns = new BitSet();
+        bookingRepository.findAllByPositionRow(row)
+            .forEach(booking -> columns.set(booking.getPositionColumn()));
+        return columns;
+    }
+}
@@ -1,11 +1,17 @@
 package com.coindirect.recruitment.controller;
 
+import com.coindirect.recruitment.model.Booking;
 import com.coindirect.recruitment.model.dto.BookingAvailabilityDto;
 import com.coindirect.recruitment.model.dto.BookingDto;
 import com.coindirect.recruitment.model.dto.CreateBookingRequestDto;
+import com.coindirect.recruitment.model.dto.ReleasedBookingsDto;
 import com.coindirect.recruitment.service.BookingService;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -38,11 +44,11 @@ public class BookingController {
      * @return on success booking details. on failure error message.
      */
     // Walidacji używa się, aby mieć pewność, że dany obiekt wypełniony jest poprawnymi danymi.
+    // Rezerwacja jest zapisywana przez BookingSerializer w formacie BookingDto, bez kopiowania do nowego obiektu.
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = BookingDto.class)))
     @PostMapping("create")
-    public ResponseEntity<BookingDto> createBooking(@Valid @RequestBody CreateBookingRequestDto createBookingRequestDto) {
-        final var savedBooking = bookingService.createBooking(createBookingRequestDto);
-        final var response = new BookingDto(savedBooking.getId(), savedBooking.getPositionRow(), savedBooking.getPositionColumn(), savedBooking.getName());
-        return ResponseEntity.ok(response);
+    public ResponseEntity<Booking> createBooking(@Valid @RequestBody CreateBookingRequestDto createBookingRequestDto) {
+        return ResponseEntity.ok(bookingService.createBooking(createBookingRequestDto));
     }
 
     /**
@@ -52,11 +58,10 @@ public class BookingController {
      * @param column grid position column
      * @return the booking details. 400 if not found
      */
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = BookingDto.class)))
     @GetMapping("getByPosition/{row}/{column}")
-    public ResponseEntity<BookingDto> getBookingByPosition(@PathVariable int row, @PathVariable int column) {
-        final var booking = bookingService.getBookingByPosition(row, column);
-        final var response = new BookingDto(booking.getId(), booking.getPositionRow(), booking.getPositionColumn(), booking.getName());
-        return ResponseEntity.ok(response);
+    public ResponseEntity<Booking> getBookingByPosition(@PathVariable int row, @PathVariable int column) {
+        return ResponseEntity.ok(bookingService.getBookingByPosition(row, column));
     }
 
     /**
@@ -65,11 +70,10 @@ public class BookingController {
      * @param bookingId booking id
      * @return the booking details. 400 if not found
      */
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = BookingDto.class)))
     @GetMapping("getByBookingId/{bookingId}")
-    public ResponseEntity<BookingDto> getBookingById(@PathVariable UUID bookingId) {
-        final var booking = bookingService.getBookingById(bookingId);
-        final var response = new BookingDto(booking.getId(), booking.getPositionRow(), booking.getPositionColumn(), booking.getName());
-        return ResponseEntity.ok(response);
+    public ResponseEntity<Booking> getBookingById(@PathVariable UUID bookingId) {
+        return ResponseEntity.ok(bookingService.getBookingById(bookingId));
     }
 
     /**
@@ -81,7 +85,60 @@ public class BookingController {
      */
     @GetMapping("isAvailable/{row}/{column}")
     public ResponseEntity<BookingAvailabilityDto> isAvailable(@PathVariable int row, @PathVariable int column) {
-        final var response = new BookingAvailabilityDto(bookingService.isAvailable(row, column));
+        final var response = BookingAvailabilityDto.of(bookingService.isAvailable(row, column));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Cancels a booking by booking id
+     *
+     * @param bookingId booking id
+     * @return 200 on success. 422 if not found
+     */
+    @DeleteMapping("cancelByBookingId/{bookingId}")
+    public ResponseEntity<Void> cancelBookingById(@PathVariable UUID bookingId) {
+        bookingService.cancelBookingById(bookingId);
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * Cancels a booking by grid position
+     *
+     * @param row    grid position row
+     * @param column grid position column
+     * @return 200 on success. 422 if not found
+     */
+    @DeleteMapping("cancelByPosition/{row}/{column}")
+    public ResponseEntity<Void> cancelBookingByPosition(@PathVariable int row, @PathVariable int column) {
+        bookingService.cancelBookingByPosition(row, column);
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * Releases every booking in a row
+     *
+     * @param row grid position row
+     * @return number of released bookings. 503 with the number of released bookings if part of the row was not released
+     */
+    @DeleteMapping("cancelRow/{row}")
+    public ResponseEntity<ReleasedBookingsDto> cancelRow(@PathVariable int row) {
+        final var response = new ReleasedBookingsDto(bookingService.cancelBookingsInRow(row));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Releases every booking in a rectangle, corners inclusive
+     *
+     * @param fromRow    top row
+     * @param fromColumn left column
+     * @param toRow      bottom row
+     * @param toColumn   right column
+     * @return number of released bookings. 503 with the number of released bookings if part of the area was not released
+     */
+    @DeleteMapping("cancelArea/{fromRow}/{fromColumn}/{toRow}/{toColumn}")
+    public ResponseEntity<ReleasedBookingsDto> cancelArea(@PathVariable int fromRow, @PathVariable int fromColumn,
+                                                          @PathVariable int toRow, @PathVariable int toColumn) {
+        final var response = new ReleasedBookingsDto(bookingService.cancelBookingsInArea(fromRow, fromColumn, toRow, toColumn));
         return ResponseEntity.ok(response);
     }
 }
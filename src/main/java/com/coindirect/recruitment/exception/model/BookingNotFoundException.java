@@ -2,15 +2,19 @@ package com.coindirect.recruitment.exception.model;
 
 import java.util.UUID;
 
-import static java.lang.String.format;
-
 public class BookingNotFoundException extends RuntimeException {
 
     public BookingNotFoundException(int row, int column) {
-        super(format("Booking not found for position %s, %s", row, column));
+        super("Booking not found for position " + row + ", " + column);
     }
 
     public BookingNotFoundException(UUID id) {
-        super(format("Booking not found for id %s", id));
+        super("Booking not found for id " + id);
+    }
+
+    // Brak rezerwacji to oczekiwany wynik zapytania, a nie błąd - stos wywołań nie jest potrzebny.
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
     }
 }
@@ -0,0 +1,14 @@
+package com.coindirect.recruitment.exception.model;
+
+import static java.lang.String.format;
+
+public class NodeUnavailableException extends RuntimeException {
+
+    public NodeUnavailableException(String node) {
+        super(format("Node %s is unavailable", node));
+    }
+
+    public NodeUnavailableException(String node, Throwable cause) {
+        super(format("Node %s is unavailable", node), cause);
+    }
+}
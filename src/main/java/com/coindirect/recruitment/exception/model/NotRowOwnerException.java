@@ -0,0 +1,17 @@
+package com.coindirect.recruitment.exception.model;
+
+import static java.lang.String.format;
+
+public class NotRowOwnerException extends RuntimeException {
+
+    private final int row;
+
+    public NotRowOwnerException(int row) {
+        super(format("This node does not own row %s", row));
+        this.row = row;
+    }
+
+    public int getRow() {
+        return row;
+    }
+}
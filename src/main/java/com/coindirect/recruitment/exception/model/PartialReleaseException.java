@@ -0,0 +1,20 @@
+package com.coindirect.recruitment.exception.model;
+
+import static java.lang.String.format;
+
+/**
+ * A bulk release failed on one of the nodes after others had already released their rows.
+ */
+public class PartialReleaseException extends RuntimeException {
+
+    private final int released;
+
+    public PartialReleaseException(int released, RuntimeException cause) {
+        super(format("Released %s bookings before failing: %s", released, cause.getMessage()), cause);
+        this.released = released;
+    }
+
+    public int getReleased() {
+        return released;
+    }
+}
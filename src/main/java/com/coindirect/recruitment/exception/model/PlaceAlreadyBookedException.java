@@ -2,7 +2,16 @@ package com.coindirect.recruitment.exception.model;
 
 public class PlaceAlreadyBookedException extends IllegalStateException {
 
+    public static final String MESSAGE = "Place already booked";
+
     public PlaceAlreadyBookedException() {
-        super("Place already booked");
+        super(MESSAGE);
+    }
+
+    // Konflikt jest oczekiwanym wynikiem, a nie błędem - stos wywołań nie jest potrzebny,
+    // a jego wypełnianie kosztuje najwięcej przy każdym rzuceniu wyjątku.
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
     }
 }
@@ -14,20 +14,68 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 import java.util.Map;
 
 import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
 import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
 
 @ControllerAdvice
 public class ResponseExceptionHandler extends ResponseEntityExceptionHandler {
 
-    @ExceptionHandler({BookingNotFoundException.class, PlaceAlreadyBookedException.class, IllegalStateException.class})
-    public ResponseEntity<Object> handleBookingNotFoundException(Exception ex, WebRequest request) {
+    // Odpowiedź na konflikt jest zawsze taka sama, więc jest tworzona i serializowana tylko raz.
+    private static final ResponseEntity<Object> PLACE_ALREADY_BOOKED_RESPONSE = ResponseEntity.status(UNPROCESSABLE_ENTITY)
+        .contentType(APPLICATION_JSON)
+        .body(format("{\"message\":\"%s\"}", PlaceAlreadyBookedException.MESSAGE).getBytes(UTF_8));
+    private static final HttpHeaders JSON_HEADERS = HttpHeaders.readOnlyHttpHeaders(jsonHeaders());
+
+    @ExceptionHandler(PlaceAlreadyBookedException.class)
+    public ResponseEntity<Object> handlePlaceAlreadyBookedException(PlaceAlreadyBookedException ex, WebRequest request) {
+        return PLACE_ALREADY_BOOKED_RESPONSE;
+    }
+
+    // Komunikat zawiera tylko liczby lub UUID, więc nie wymaga escapowania i może zostać zapisany bezpośrednio.
+    @ExceptionHandler(BookingNotFoundException.class)
+    public ResponseEntity<Object> handleBookingNotFoundException(BookingNotFoundException ex, WebRequest request) {
+        return new ResponseEntity<>(
+            ("{\"message\":\"" + ex.getMessage() + "\"}").getBytes(UTF_8), JSON_HEADERS, UNPROCESSABLE_ENTITY);
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<Object> handleIllegalStateException(IllegalStateException ex, WebRequest request) {
         return new ResponseEntity<>(
             Map.of("message", ex.getMessage()), new HttpHeaders(), UNPROCESSABLE_ENTITY);
     }
 
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Object> handleIllegalArgumentException(IllegalArgumentException ex, WebRequest request) {
+        return new ResponseEntity<>(
+            Map.of("message", ex.getMessage() != null ? ex.getMessage() : "Invalid request"), new HttpHeaders(), BAD_REQUEST);
+    }
+
+    // Nadawca ma nieaktualny widok klastra i powinien go odświeżyć.
+    @ExceptionHandler(NotRowOwnerException.class)
+    public ResponseEntity<Object> handleNotRowOwnerException(NotRowOwnerException ex, WebRequest request) {
+        return new ResponseEntity<>(
+            Map.of("message", ex.getMessage(), "row", ex.getRow()), new HttpHeaders(), CONFLICT);
+    }
+
+    @ExceptionHandler(NodeUnavailableException.class)
+    public ResponseEntity<Object> handleNodeUnavailableException(NodeUnavailableException ex, WebRequest request) {
+        return new ResponseEntity<>(
+            Map.of("message", ex.getMessage()), new HttpHeaders(), SERVICE_UNAVAILABLE);
+    }
+
+    // Zwolnione już rezerwacje nie są przywracane, więc klient dostaje ich liczbę.
+    @ExceptionHandler(PartialReleaseException.class)
+    public ResponseEntity<Object> handlePartialReleaseException(PartialReleaseException ex, WebRequest request) {
+        return new ResponseEntity<>(
+            Map.of("message", ex.getMessage(), "released", ex.getReleased()), new HttpHeaders(), SERVICE_UNAVAILABLE);
+    }
+
     protected ResponseEntity<Object> handleMethodArgumentNotValid(MethodArgumentNotValidException ex, HttpHeaders headers,
                                                                   HttpStatus status, WebRequest request) {
         final var errors = ex.getBindingResult()
@@ -38,4 +86,10 @@ public class ResponseExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(
             Map.of("message", "Input problems: " + errors.stream().collect(joining(", "))), new HttpHeaders(), BAD_REQUEST);
     }
+
+    private static HttpHeaders jsonHeaders() {
+        final var headers = new HttpHeaders();
+        headers.setContentType(APPLICATION_JSON);
+        return headers;
+    }
 }
\ No newline at end of file
@@ -2,8 +2,18 @@ package com.coindirect.recruitment.model.dto;
 
 import lombok.AllArgsConstructor;
 
-@AllArgsConstructor
+import static lombok.AccessLevel.PRIVATE;
+
+@AllArgsConstructor(access = PRIVATE)
 public class BookingAvailabilityDto {
 
+    // obie możliwe odpowiedzi są współdzielone zamiast tworzenia nowej przy każdym zapytaniu
+    private static final BookingAvailabilityDto AVAILABLE = new BookingAvailabilityDto(true);
+    private static final BookingAvailabilityDto NOT_AVAILABLE = new BookingAvailabilityDto(false);
+
     public final boolean available;
+
+    public static BookingAvailabilityDto of(boolean available) {
+        return available ? AVAILABLE : NOT_AVAILABLE;
+    }
 }
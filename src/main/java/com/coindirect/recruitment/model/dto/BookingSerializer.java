@@ -0,0 +1,44 @@
+package com.coindirect.recruitment.model.dto;
+
+import com.coindirect.recruitment.model.Booking;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.UUIDSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link Booking} exactly as a {@link BookingDto}, so controllers can return the entity
+ * without copying it into a new dto for every response. {@link BookingDto} stays the documented schema.
+ */
+@JsonComponent
+public class BookingSerializer extends JsonSerializer<Booking> {
+
+    // nazwy pól są kodowane tylko raz
+    private static final SerializedString BOOKING_ID = new SerializedString("bookingId");
+    private static final SerializedString ROW = new SerializedString("row");
+    private static final SerializedString COLUMN = new SerializedString("column");
+    private static final SerializedString NAME = new SerializedString("name");
+    private static final UUIDSerializer UUID_SERIALIZER = new UUIDSerializer();
+
+    @Override
+    public void serialize(Booking booking, JsonGenerator generator, SerializerProvider serializers) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(BOOKING_ID);
+        if (booking.getId() == null) {
+            generator.writeNull();
+        } else {
+            UUID_SERIALIZER.serialize(booking.getId(), generator, serializers);
+        }
+        generator.writeFieldName(ROW);
+        generator.writeNumber(booking.getPositionRow());
+        generator.writeFieldName(COLUMN);
+        generator.writeNumber(booking.getPositionColumn());
+        generator.writeFieldName(NAME);
+        generator.writeString(booking.getName());
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,17 @@
+package com.coindirect.recruitment.model.dto;
+
+import lombok.AllArgsConstructor;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import java.util.Set;
+
+@AllArgsConstructor
+public class JoinRequestDto {
+
+    @NotBlank
+    public final String node;
+    // węzły znane dołączającemu węzłowi
+    @NotNull
+    public final Set<String> nodes;
+}
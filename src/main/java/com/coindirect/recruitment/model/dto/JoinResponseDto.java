@@ -0,0 +1,13 @@
+package com.coindirect.recruitment.model.dto;
+
+import lombok.AllArgsConstructor;
+
+import java.util.Set;
+
+@AllArgsConstructor
+public class JoinResponseDto {
+
+    public final Set<String> nodes;
+    // true, gdy dołączający węzeł nie był dotąd znany
+    public final boolean added;
+}
@@ -0,0 +1,18 @@
+package com.coindirect.recruitment.model.dto;
+
+import lombok.AllArgsConstructor;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.PositiveOrZero;
+import java.util.List;
+
+@AllArgsConstructor
+public class ReleaseRowsRequestDto {
+
+    @NotEmpty
+    public final List<Integer> rows;
+    @PositiveOrZero
+    public final int fromColumn;
+    @PositiveOrZero
+    public final int toColumn;
+}
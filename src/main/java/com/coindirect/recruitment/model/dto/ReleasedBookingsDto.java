@@ -0,0 +1,9 @@
+package com.coindirect.recruitment.model.dto;
+
+import lombok.AllArgsConstructor;
+
+@AllArgsConstructor
+public class ReleasedBookingsDto {
+
+    public final int released;
+}
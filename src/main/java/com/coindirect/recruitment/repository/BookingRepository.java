@@ -2,8 +2,14 @@ package com.coindirect.recruitment.repository;
 
 import com.coindirect.recruitment.model.Booking;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -13,4 +19,31 @@ public interface BookingRepository extends JpaRepository<Booking, UUID> {
     // Optional ma nas chronić przed otrzymaniem wartości NULL.
     // Może zaistnieć to w przypadku kiedy próbujemy się odwołać do elementu (np. w kolekcji), który nie istnieje
     Optional<Booking> findByPositionRowAndPositionColumn(int row, int column);
+
+    List<Booking> findAllByPositionRow(int row);
+
+    List<Booking> findAllByPositionRowIn(Collection<Integer> rows);
+
+    // Pojedyncze zapytanie DELETE, bez wcześniejszego wczytywania encji jak w deleteById.
+    // Korzysta z klucza głównego lub z indeksu unikalnego (position_row, position_column).
+    @Transactional
+    @Modifying
+    @Query("delete from Booking b where b.id = :id")
+    int deleteBookingById(@Param("id") UUID id);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Booking b where b.positionRow = :row and b.positionColumn = :column")
+    int deleteByPosition(@Param("row") int row, @Param("column") int column);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Booking b where b.positionRow between :fromRow and :toRow and b.positionColumn between :fromColumn and :toColumn")
+    int deleteInArea(@Param("fromRow") int fromRow, @Param("fromColumn") int fromColumn,
+                     @Param("toRow") int toRow, @Param("toColumn") int toColumn);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Booking b where b.positionRow in :rows and b.positionColumn between :fromColumn and :toColumn")
+    int deleteInRows(@Param("rows") Collection<Integer> rows, @Param("fromColumn") int fromColumn, @Param("toColumn") int toColumn);
 }
@@ -1,5 +1,6 @@
 package com.coindirect.recruitment.service;
 
+import com.coindirect.recruitment.cluster.BookingCluster;
 import com.coindirect.recruitment.exception.model.BookingNotFoundException;
 import com.coindirect.recruitment.exception.model.PlaceAlreadyBookedException;
 import com.coindirect.recruitment.model.Booking;
@@ -9,8 +10,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import static java.lang.String.format;
 import static org.springframework.transaction.annotation.Isolation.SERIALIZABLE;
 
 @Service
@@ -20,14 +24,35 @@ public class BookingService {
     private static final int MAX_COL = 1000;
 
     private final BookingRepository bookingRepository;
+    // null gdy aplikacja nie działa w trybie klastra
+    private final BookingCluster bookingCluster;
 
-    @Autowired
     public BookingService(BookingRepository bookingRepository) {
+        this(bookingRepository, Optional.empty());
+    }
+
+    @Autowired
+    public BookingService(BookingRepository bookingRepository, Optional<BookingCluster> bookingCluster) {
         this.bookingRepository = bookingRepository;
+        this.bookingCluster = bookingCluster.orElse(null);
     }
 
     public Booking createBooking(CreateBookingRequestDto request) {
         validateRequest(request);
+        if (bookingCluster != null) {
+            return bookingCluster.createBooking(request, () -> persistBooking(request));
+        }
+        return saveBooking(request);
+    }
+
+    /**
+     * Creates a booking on this node without forwarding it to the owner of the row.
+     */
+    public Booking createLocalBooking(CreateBookingRequestDto request) {
+        validateRequest(request);
+        if (bookingCluster != null) {
+            return bookingCluster.createLocalBooking(request, () -> persistBooking(request));
+        }
         return saveBooking(request);
     }
 
@@ -38,6 +63,10 @@ public class BookingService {
         if (bookingRepository.findByPositionRowAndPositionColumn(request.row, request.column).isPresent()) {
             throw new PlaceAlreadyBookedException();
         }
+        return persistBooking(request);
+    }
+
+    private Booking persistBooking(CreateBookingRequestDto request) {
         final var booking = new Booking(request.name, request.row, request.column);
         return bookingRepository.save(booking);
     }
@@ -53,15 +82,113 @@ public class BookingService {
     }
 
     public boolean isAvailable(int row, int column) {
+        if (bookingCluster != null) {
+            return bookingCluster.isAvailable(row, column);
+        }
+        return bookingRepository.findByPositionRowAndPositionColumn(row, column).isEmpty();
+    }
+
+    /**
+     * Checks availability on this node without forwarding the query to the owner of the row.
+     */
+    public boolean isLocallyAvailable(int row, int column) {
+        if (bookingCluster != null) {
+            return bookingCluster.isLocallyAvailable(row, column);
+        }
         return bookingRepository.findByPositionRowAndPositionColumn(row, column).isEmpty();
     }
 
+    public void cancelBookingById(UUID bookingId) {
+        if (bookingCluster == null) {
+            deleteBookingById(bookingId);
+            return;
+        }
+        // w trybie klastra potrzebujemy wiersza, aby znaleźć węzeł, który jest jego właścicielem
+        final var booking = getBookingById(bookingId);
+        bookingCluster.cancelBooking(booking.getPositionRow(), booking.getPositionColumn(), bookingId,
+            () -> deleteBookingById(bookingId));
+    }
+
+    public void cancelBookingByPosition(int row, int column) {
+        if (bookingCluster == null) {
+            deleteBookingByPosition(row, column);
+            return;
+        }
+        bookingCluster.cancelBooking(row, column, null, () -> deleteBookingByPosition(row, column));
+    }
+
+    /**
+     * Cancels a booking on this node without forwarding it to the owner of the row.
+     * The booking is matched by id when {@code bookingId} is given, by position otherwise.
+     */
+    public void cancelLocalBooking(int row, int column, UUID bookingId) {
+        final Runnable delete = bookingId == null
+            ? () -> deleteBookingByPosition(row, column)
+            : () -> deleteBookingById(bookingId);
+        if (bookingCluster == null) {
+            delete.run();
+            return;
+        }
+        bookingCluster.cancelLocalBooking(row, column, delete);
+    }
+
+    public int cancelBookingsInRow(int row) {
+        return cancelBookingsInArea(row, 0, row, MAX_COL - 1);
+    }
+
+    /**
+     * Releases every booking in the rectangle with one DELETE statement,
+     * or in cluster mode with one DELETE per node owning some of its rows.
+     * In cluster mode the release is atomic per node only, see {@link BookingCluster#cancelBookingsInArea}.
+     *
+     * @return number of released bookings
+     */
+    public int cancelBookingsInArea(int fromRow, int fromColumn, int toRow, int toColumn) {
+        validateArea(fromRow, fromColumn, toRow, toColumn);
+        if (bookingCluster == null) {
+            return bookingRepository.deleteInArea(fromRow, fromColumn, toRow, toColumn);
+        }
+        return bookingCluster.cancelBookingsInArea(fromRow, fromColumn, toRow, toColumn,
+            rows -> bookingRepository.deleteInRows(rows, fromColumn, toColumn));
+    }
+
+    /**
+     * Releases bookings in the given rows on this node without forwarding them to their owners.
+     */
+    public int cancelLocalBookingsInRows(List<Integer> rows, int fromColumn, int toColumn) {
+        rows.forEach(row -> validateArea(row, fromColumn, row, toColumn));
+        if (bookingCluster == null) {
+            return bookingRepository.deleteInRows(rows, fromColumn, toColumn);
+        }
+        return bookingCluster.cancelLocalBookingsInRows(rows, fromColumn, toColumn,
+            ownedRows -> bookingRepository.deleteInRows(ownedRows, fromColumn, toColumn));
+    }
+
+    private void deleteBookingById(UUID bookingId) {
+        if (bookingRepository.deleteBookingById(bookingId) == 0) {
+            throw new BookingNotFoundException(bookingId);
+        }
+    }
+
+    private void deleteBookingByPosition(int row, int column) {
+        if (bookingRepository.deleteByPosition(row, column) == 0) {
+            throw new BookingNotFoundException(row, column);
+        }
+    }
+
+    private void validateArea(int fromRow, int fromColumn, int toRow, int toColumn) {
+        if (fromRow < 0 || fromColumn < 0 || fromRow > toRow || fromColumn > toColumn
+            || toRow >= MAX_ROW || toColumn >= MAX_COL) {
+            throw new IllegalArgumentException(format("Invalid area from %s, %s to %s, %s", fromRow, fromColumn, toRow, toColumn));
+        }
+    }
+
     private void validateRequest(CreateBookingRequestDto request) {
         if (request.column >= MAX_COL) {
-            throw new IllegalArgumentException();
+            throw new IllegalArgumentException(format("Column %s out of range", request.column));
         }
         if (request.row >= MAX_ROW) {
-            throw new IllegalArgumentException();
+            throw new IllegalArgumentException(format("Row %s out of range", request.row));
         }
     }
 }
@@ -0,0 +1,99 @@
+package com.coindirect.recruitment.cluster;
+
+import com.coindirect.recruitment.exception.model.NotRowOwnerException;
+import com.coindirect.recruitment.exception.model.PartialReleaseException;
+import com.coindirect.recruitment.model.dto.JoinResponseDto;
+import com.coindirect.recruitment.model.dto.ReleaseRowsRequestDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class BookingClusterTest {
+
+    private static final String SELF = "http://localhost:8080";
+    private static final String OTHER = "http://localhost:8081";
+    private static final String JOINING = "http://localhost:8082";
+
+    private final ReservationState reservationState = mock(ReservationState.class);
+    private final ClusterClient clusterClient = mock(ClusterClient.class);
+    private BookingCluster bookingCluster;
+
+    @BeforeEach
+    void setUp() {
+        var properties = new ClusterProperties();
+        properties.setNodeUrl(SELF);
+        properties.setSeeds(List.of(OTHER));
+        given(clusterClient.join(eq(OTHER), eq(SELF), anySet())).willReturn(new JoinResponseDto(Set.of(SELF, OTHER), true));
+        bookingCluster = new BookingCluster(properties, reservationState, clusterClient);
+        bookingCluster.announce();
+    }
+
+    @Test
+    void should_send_refused_rows_to_owner_known_after_refresh() {
+        // given
+        var ring = ring(SELF, OTHER);
+        var refreshedRing = ring(SELF, OTHER, JOINING);
+        // wiersz, który po dołączeniu trzeciego węzła przechodzi do niego od drugiego węzła
+        var row = IntStream.range(0, 1000)
+            .filter(candidate -> ring.ownerOf(candidate).equals(OTHER) && refreshedRing.ownerOf(candidate).equals(JOINING))
+            .findFirst()
+            .orElseThrow();
+        given(clusterClient.cancelBookingsInRows(eq(OTHER), any())).willThrow(new NotRowOwnerException(row));
+        given(clusterClient.nodes(OTHER)).willReturn(Set.of(SELF, OTHER, JOINING));
+        given(clusterClient.cancelBookingsInRows(eq(JOINING), any())).willReturn(2);
+
+        // when
+        var released = bookingCluster.cancelBookingsInArea(row, 0, row, 9, rows -> 0);
+
+        // then
+        assertThat(released).isEqualTo(2);
+        assertThat(bookingCluster.nodes()).containsExactlyInAnyOrder(SELF, OTHER, JOINING);
+    }
+
+    @Test
+    void should_report_released_bookings_when_owner_keeps_refusing() {
+        // given
+        var ring = ring(SELF, OTHER);
+        var localRow = rowOwnedBy(SELF, ring);
+        var otherRow = rowOwnedBy(OTHER, ring);
+        given(reservationState.releaseRows(anyList(), anyInt(), anyInt(), any())).willReturn(3);
+        given(clusterClient.cancelBookingsInRows(eq(OTHER), any(ReleaseRowsRequestDto.class)))
+            .willThrow(new NotRowOwnerException(otherRow));
+        given(clusterClient.nodes(OTHER)).willReturn(Set.of(SELF, OTHER));
+
+        // when
+        var exception = assertThrows(PartialReleaseException.class,
+            () -> bookingCluster.cancelBookingsInArea(Math.min(localRow, otherRow), 0, Math.max(localRow, otherRow), 9, rows -> 3));
+
+        // then
+        assertThat(exception.getReleased()).isEqualTo(3);
+    }
+
+    private static int rowOwnedBy(String node, ConsistentHashRing ring) {
+        return IntStream.range(0, 1000)
+            .filter(row -> ring.ownerOf(row).equals(node))
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private static ConsistentHashRing ring(String... nodes) {
+        var ring = new ConsistentHashRing(128);
+        for (var node : nodes) {
+            ring = ring.withNode(node);
+        }
+        return ring;
+    }
+}
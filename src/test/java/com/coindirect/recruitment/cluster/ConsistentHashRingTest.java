@@ -0,0 +1,72 @@
+package com.coindirect.recruitment.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConsistentHashRingTest {
+
+    private static final String FIRST = "http://localhost:8081";
+    private static final String SECOND = "http://localhost:8082";
+    private static final String THIRD = "http://localhost:8083";
+
+    @Test
+    void should_assign_every_row_to_single_node() {
+        // given
+        var ring = new ConsistentHashRing(128).withNode(FIRST);
+
+        // then
+        IntStream.range(0, 1000).forEach(row -> assertThat(ring.ownerOf(row)).isEqualTo(FIRST));
+    }
+
+    @Test
+    void should_spread_rows_across_nodes() {
+        // given
+        var ring = new ConsistentHashRing(128).withNode(FIRST).withNode(SECOND).withNode(THIRD);
+
+        // when
+        var ownedByFirst = IntStream.range(0, 1000).filter(row -> ring.ownerOf(row).equals(FIRST)).count();
+
+        // then
+        assertThat(ownedByFirst).isBetween(200L, 470L);
+    }
+
+    @Test
+    void should_move_only_rows_of_joining_node() {
+        // given
+        var before = new ConsistentHashRing(128).withNode(FIRST).withNode(SECOND);
+
+        // when
+        var after = before.withNode(THIRD);
+
+        // then
+        IntStream.range(0, 1000)
+            .filter(row -> !after.ownerOf(row).equals(before.ownerOf(row)))
+            .forEach(row -> assertThat(after.ownerOf(row)).isEqualTo(THIRD));
+    }
+
+    @Test
+    void should_return_rows_of_leaving_node_to_remaining_nodes() {
+        // given
+        var before = new ConsistentHashRing(128).withNode(FIRST).withNode(SECOND);
+
+        // when
+        var after = before.withNode(THIRD).withoutNode(THIRD);
+
+        // then
+        assertThat(after.nodes()).containsExactly(FIRST, SECOND);
+        IntStream.range(0, 1000).forEach(row -> assertThat(after.ownerOf(row)).isEqualTo(before.ownerOf(row)));
+    }
+
+    @Test
+    void should_throw_when_ring_is_empty() {
+        // given
+        var ring = new ConsistentHashRing(128);
+
+        // then
+        assertThrows(IllegalStateException.class, () -> ring.ownerOf(0));
+    }
+}
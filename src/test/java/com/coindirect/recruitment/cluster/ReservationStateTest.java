@@ -0,0 +1,111 @@
+package com.coindirect.recruitment.cluster;
+
+import com.coindirect.recruitment.exception.model.NotRowOwnerException;
+import com.coindirect.recruitment.exception.model.PlaceAlreadyBookedException;
+import com.coindirect.recruitment.model.Booking;
+import com.coindirect.recruitment.repository.BookingRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+
+class ReservationStateTest {
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final ReservationState reservationState = new ReservationState(bookingRepository);
+
+    @Test
+    void should_load_row_once_and_mark_reserved_cell() {
+        // given
+        var booking = new Booking("John's booking", 1, 2);
+        given(bookingRepository.findAllByPositionRow(1)).willReturn(List.of());
+
+        // when
+        var reserved = reservationState.reserve(1, 2, () -> booking);
+
+        // then
+        assertThat(reserved).isSameAs(booking);
+        assertFalse(reservationState.isFree(1, 2));
+        assertTrue(reservationState.isFree(1, 3));
+        then(bookingRepository).should(times(1)).findAllByPositionRow(1);
+    }
+
+    @Test
+    void should_not_reserve_and_throw_when_cell_already_booked() {
+        // given
+        given(bookingRepository.findAllByPositionRow(1)).willReturn(List.of(new Booking("John's booking", 1, 2)));
+
+        // then
+        assertThrows(PlaceAlreadyBookedException.class, () -> reservationState.reserve(1, 2, () -> {
+            throw new AssertionError("must not save");
+        }));
+    }
+
+    @Test
+    void should_mark_cell_booked_when_save_hits_unique_constraint() {
+        // given
+        given(bookingRepository.findAllByPositionRow(1)).willReturn(List.of());
+
+        // then
+        assertThrows(PlaceAlreadyBookedException.class, () -> reservationState.reserve(1, 2, () -> {
+            throw new DataIntegrityViolationException("duplicate");
+        }));
+        assertFalse(reservationState.isFree(1, 2));
+    }
+
+    @Test
+    void should_reject_rows_not_owned_after_reset() {
+        // given
+        given(bookingRepository.findAllByPositionRow(1)).willReturn(List.of());
+        reservationState.isFree(1, 2);
+
+        // when
+        reservationState.reset(row -> row != 1);
+
+        // then
+        assertThrows(NotRowOwnerException.class, () -> reservationState.isFree(1, 2));
+        assertThrows(NotRowOwnerException.class, () -> reservationState.reserve(1, 2, () -> new Booking("John's booking", 1, 2)));
+    }
+
+    @Test
+    void should_reload_owned_rows_after_reset() {
+        // given
+        given(bookingRepository.findAllByPositionRow(1))
+            .willReturn(List.of(new Booking("John's booking", 1, 2)))
+            .willReturn(List.of());
+        assertFalse(reservationState.isFree(1, 2));
+
+        // when
+        reservationState.reset(row -> true);
+
+        // then
+        assertTrue(reservationState.isFree(1, 2));
+        then(bookingRepository).should(times(2)).findAllByPositionRow(1);
+    }
+
+    @Test
+    void should_release_columns_of_all_rows_with_single_delete() {
+        // given
+        given(bookingRepository.findAllByPositionRowIn(List.of(1, 2)))
+            .willReturn(List.of(new Booking("John's booking", 1, 2), new Booking("John's booking", 2, 7)));
+
+        // when
+        var released = reservationState.releaseRows(List.of(1, 2), 0, 5, () -> 1);
+
+        // then
+        assertThat(released).isEqualTo(1);
+        assertTrue(reservationState.isFree(1, 2));
+        assertFalse(reservationState.isFree(2, 7));
+        then(bookingRepository).should(times(1)).findAllByPositionRowIn(List.of(1, 2));
+        then(bookingRepository).shouldHaveNoMoreInteractions();
+    }
+}
@@ -0,0 +1,211 @@
+package com.coindirect.recruitment.controller;
+
+import com.coindirect.recruitment.exception.model.BookingNotFoundException;
+import com.coindirect.recruitment.exception.model.PlaceAlreadyBookedException;
+import com.coindirect.recruitment.model.Booking;
+import com.coindirect.recruitment.model.dto.BookingDto;
+import com.coindirect.recruitment.model.dto.CreateBookingRequestDto;
+import com.coindirect.recruitment.service.BookingService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import javax.validation.Valid;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.UUID;
+
+import static java.lang.String.format;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Measures bytes allocated per request on the create and lookup endpoints, from the request
+ * reaching the dispatcher servlet to the response body being written.
+ * Every request is measured twice in the same run: on {@link BookingController} and on {@link BaselineController},
+ * which answers the same requests the way they were answered before, with a {@link BookingDto} copy
+ * per response, exceptions with stack traces and error bodies written from a map.
+ * Not part of the regular build; run with {@code ./gradlew allocationTest}.
+ * The results are published to the test report, the GC log goes to {@code build/allocation/gc.log}.
+ */
+@Tag("allocation")
+@WebMvcTest(BookingController.class)
+@Import(BookingControllerAllocationTest.AllocationTestConfiguration.class)
+class BookingControllerAllocationTest {
+
+    private static final int WARM_UP = 20_000;
+    private static final int REQUESTS = 20_000;
+    private static final UUID BOOKING_ID = UUID.fromString("5f0e3a4c-8f1b-4c47-9a52-3c1e2b7d9a10");
+    private static final UUID MISSING_BOOKING_ID = UUID.fromString("0b6e2f7a-1c3d-4e5f-8a9b-7c6d5e4f3a2b");
+    private static final String CREATE_BODY = "{\"name\": \"John's booking\", \"row\": %s, \"column\": 0}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void should_allocate_no_more_on_successful_create(TestReporter testReporter) throws Exception {
+        var saved = compare(testReporter, "create.ok",
+            post("/create").content(format(CREATE_BODY, 0)).contentType(APPLICATION_JSON),
+            post("/baseline/create").content(format(CREATE_BODY, 0)).contentType(APPLICATION_JSON),
+            status().isOk());
+
+        assertThat(saved).isNotNegative();
+    }
+
+    @Test
+    void should_allocate_less_on_conflicting_create(TestReporter testReporter) throws Exception {
+        var saved = compare(testReporter, "create.conflict",
+            post("/create").content(format(CREATE_BODY, 1)).contentType(APPLICATION_JSON),
+            post("/baseline/create").content(format(CREATE_BODY, 1)).contentType(APPLICATION_JSON),
+            status().isUnprocessableEntity());
+
+        assertThat(saved).isPositive();
+    }
+
+    @Test
+    void should_allocate_no_more_on_successful_lookup(TestReporter testReporter) throws Exception {
+        var saved = compare(testReporter, "getByBookingId.ok",
+            get("/getByBookingId/" + BOOKING_ID),
+            get("/baseline/getByBookingId/" + BOOKING_ID),
+            status().isOk());
+
+        assertThat(saved).isNotNegative();
+    }
+
+    @Test
+    void should_allocate_less_on_failed_lookup(TestReporter testReporter) throws Exception {
+        var saved = compare(testReporter, "getByBookingId.notFound",
+            get("/getByBookingId/" + MISSING_BOOKING_ID),
+            get("/baseline/getByBookingId/" + MISSING_BOOKING_ID),
+            status().isUnprocessableEntity());
+
+        assertThat(saved).isPositive();
+    }
+
+    // Oba endpointy muszą zwracać identyczną odpowiedź, inaczej porównanie nie miałoby sensu.
+    private long compare(TestReporter testReporter, String name, RequestBuilder request, RequestBuilder baselineRequest,
+                         ResultMatcher expectedStatus) throws Exception {
+        final var response = mockMvc.perform(request).andExpect(expectedStatus).andReturn().getResponse().getContentAsString();
+        final var baselineResponse = mockMvc.perform(baselineRequest).andExpect(expectedStatus).andReturn().getResponse().getContentAsString();
+        assertThat(response).isEqualTo(baselineResponse);
+
+        final var before = measure(baselineRequest);
+        final var after = measure(request);
+        testReporter.publishEntry(Map.of(
+            name + ".before.bytesPerRequest", String.valueOf(before),
+            name + ".after.bytesPerRequest", String.valueOf(after),
+            name + ".saved.bytesPerRequest", String.valueOf(before - after)));
+        return before - after;
+    }
+
+    private long measure(RequestBuilder request) throws Exception {
+        final var threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final var threadId = Thread.currentThread().getId();
+        for (int i = 0; i < WARM_UP; i++) {
+            mockMvc.perform(request);
+        }
+        final var allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < REQUESTS; i++) {
+            mockMvc.perform(request);
+        }
+        return (threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore) / REQUESTS;
+    }
+
+    // Bez adnotacji @Configuration i @Controller, aby skanowanie komponentów w innych testach ich nie wykrywało.
+    static class AllocationTestConfiguration {
+
+        // Prosta implementacja zamiast mocka - Mockito zapamiętuje każde wywołanie, co zafałszowałoby pomiar.
+        @Bean
+        BookingService bookingService() {
+            return new BookingService(null) {
+
+                @Override
+                public Booking createBooking(CreateBookingRequestDto request) {
+                    if (request.row != 0) {
+                        throw new PlaceAlreadyBookedException();
+                    }
+                    return new Booking(BOOKING_ID, request.name, request.row, request.column);
+                }
+
+                @Override
+                public Booking getBookingById(UUID bookingId) {
+                    if (!BOOKING_ID.equals(bookingId)) {
+                        throw new BookingNotFoundException(bookingId);
+                    }
+                    return new Booking(BOOKING_ID, "John's booking", 0, 0);
+                }
+            };
+        }
+
+        @Bean
+        BaselineController baselineController() {
+            return new BaselineController();
+        }
+    }
+
+    /**
+     * The create and lookup endpoints as they were before they were made allocation-light.
+     */
+    @RequestMapping("baseline")
+    static class BaselineController {
+
+        @PostMapping("create")
+        public ResponseEntity<BookingDto> createBooking(@Valid @RequestBody CreateBookingRequestDto createBookingRequestDto) {
+            if (createBookingRequestDto.row != 0) {
+                throw new BaselinePlaceAlreadyBookedException();
+            }
+            final var savedBooking = new Booking(BOOKING_ID, createBookingRequestDto.name, createBookingRequestDto.row, createBookingRequestDto.column);
+            final var response = new BookingDto(savedBooking.getId(), savedBooking.getPositionRow(), savedBooking.getPositionColumn(), savedBooking.getName());
+            return ResponseEntity.ok(response);
+        }
+
+        @GetMapping("getByBookingId/{bookingId}")
+        public ResponseEntity<BookingDto> getBookingById(@PathVariable UUID bookingId) {
+            if (!BOOKING_ID.equals(bookingId)) {
+                throw new BaselineBookingNotFoundException(bookingId);
+            }
+            final var booking = new Booking(BOOKING_ID, "John's booking", 0, 0);
+            final var response = new BookingDto(booking.getId(), booking.getPositionRow(), booking.getPositionColumn(), booking.getName());
+            return ResponseEntity.ok(response);
+        }
+
+        @ExceptionHandler({BaselineBookingNotFoundException.class, BaselinePlaceAlreadyBookedException.class})
+        public ResponseEntity<Object> handleBookingNotFoundException(Exception ex) {
+            return new ResponseEntity<>(
+                Map.of("message", ex.getMessage()), new HttpHeaders(), UNPROCESSABLE_ENTITY);
+        }
+    }
+
+    static class BaselinePlaceAlreadyBookedException extends IllegalStateException {
+
+        BaselinePlaceAlreadyBookedException() {
+            super("Place already booked");
+        }
+    }
+
+    static class BaselineBookingNotFoundException extends RuntimeException {
+
+        BaselineBookingNotFoundException(UUID id) {
+            super(format("Booking not found for id %s", id));
+        }
+    }
+}
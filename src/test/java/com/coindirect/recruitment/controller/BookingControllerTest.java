@@ -1,6 +1,9 @@
 package com.coindirect.recruitment.controller;
 
 import com.coindirect.recruitment.exception.model.BookingNotFoundException;
+import com.coindirect.recruitment.exception.model.NodeUnavailableException;
+import com.coindirect.recruitment.exception.model.PartialReleaseException;
+import com.coindirect.recruitment.exception.model.PlaceAlreadyBookedException;
 import com.coindirect.recruitment.model.Booking;
 import com.coindirect.recruitment.model.dto.CreateBookingRequestDto;
 import com.coindirect.recruitment.service.BookingService;
@@ -14,10 +17,14 @@ import org.springframework.test.web.servlet.MockMvc;
 import static java.lang.String.format;
 import static java.util.UUID.randomUUID;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willThrow;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(BookingController.class)
@@ -59,6 +66,21 @@ class BookingControllerTest {
             .andExpect(content().string("{\"message\":\"Booking not found for position 0, 0\"}"));
     }
 
+    @Test
+    void should_not_create_booking_when_place_already_booked_exception() throws Exception {
+        // given
+        var request = new CreateBookingRequestDto("Dayton's booking", 0, 0);
+        given(bookingService.createBooking(request)).willThrow(new PlaceAlreadyBookedException());
+
+        // then
+        this.mockMvc.perform(post("/create")
+            .content(new ObjectMapper().writeValueAsString(request))
+            .contentType(APPLICATION_JSON))
+            .andExpect(status().isUnprocessableEntity())
+            .andExpect(content().contentTypeCompatibleWith(APPLICATION_JSON))
+            .andExpect(content().string("{\"message\":\"Place already booked\"}"));
+    }
+
     @Test
     void should_not_create_booking_when_incorrect_request() throws Exception {
         // given
@@ -109,4 +131,61 @@ class BookingControllerTest {
             .andExpect(status().isOk())
             .andExpect(content().string("{\"available\":false}"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void should_cancel_booking_by_booking_id() throws Exception {
+        // given
+        var bookingId = randomUUID();
+
+        // then
+        this.mockMvc.perform(delete(format("/cancelByBookingId/%s", bookingId)))
+            .andExpect(status().isOk());
+        then(bookingService).should().cancelBookingById(bookingId);
+    }
+
+    @Test
+    void should_not_cancel_booking_when_booking_not_found_exception() throws Exception {
+        // given
+        willThrow(new BookingNotFoundException(0, 0)).given(bookingService).cancelBookingByPosition(0, 0);
+
+        // then
+        this.mockMvc.perform(delete("/cancelByPosition/0/0"))
+            .andExpect(status().isUnprocessableEntity())
+            .andExpect(content().string("{\"message\":\"Booking not found for position 0, 0\"}"));
+    }
+
+    @Test
+    void should_return_number_of_released_bookings_in_area() throws Exception {
+        // given
+        given(bookingService.cancelBookingsInArea(0, 0, 1, 1)).willReturn(4);
+
+        // then
+        this.mockMvc.perform(delete("/cancelArea/0/0/1/1"))
+            .andExpect(status().isOk())
+            .andExpect(content().string("{\"released\":4}"));
+    }
+
+    @Test
+    void should_not_release_area_when_area_is_invalid() throws Exception {
+        // given
+        given(bookingService.cancelBookingsInArea(5, 5, 4, 6)).willThrow(new IllegalArgumentException("Invalid area from 5, 5 to 4, 6"));
+
+        // then
+        this.mockMvc.perform(delete("/cancelArea/5/5/4/6"))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().string("{\"message\":\"Invalid area from 5, 5 to 4, 6\"}"));
+    }
+
+    @Test
+    void should_return_number_of_released_bookings_when_area_released_partially() throws Exception {
+        // given
+        given(bookingService.cancelBookingsInArea(0, 0, 9, 9))
+            .willThrow(new PartialReleaseException(3, new NodeUnavailableException("http://localhost:8081")));
+
+        // then
+        this.mockMvc.perform(delete("/cancelArea/0/0/9/9"))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(jsonPath("$.released").value(3))
+            .andExpect(jsonPath("$.message").value("Released 3 bookings before failing: Node http://localhost:8081 is unavailable"));
+    }
+}
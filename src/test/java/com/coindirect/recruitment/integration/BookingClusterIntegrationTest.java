@@ -0,0 +1,278 @@
+package com.coindirect.recruitment.integration;
+
+import com.coindirect.recruitment.BookingSystemApplication;
+import com.coindirect.recruitment.cluster.ConsistentHashRing;
+import com.coindirect.recruitment.repository.BookingRepository;
+import io.restassured.specification.RequestSpecification;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.util.stream.IntStream;
+
+import static com.coindirect.recruitment.cluster.ClusterSecretInterceptor.SECRET_HEADER;
+import static io.restassured.RestAssured.given;
+import static io.restassured.http.ContentType.JSON;
+import static java.lang.String.format;
+import static org.apache.http.HttpStatus.SC_CONFLICT;
+import static org.apache.http.HttpStatus.SC_OK;
+import static org.apache.http.HttpStatus.SC_UNAUTHORIZED;
+import static org.apache.http.HttpStatus.SC_UNPROCESSABLE_ENTITY;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+
+/**
+ * Runs two nodes on localhost sharing the in-memory database.
+ * Bookings are cleaned up through the nodes, so their in-memory occupancy stays in sync with the database.
+ */
+public class BookingClusterIntegrationTest {
+
+    private static final String SECRET = "test-secret";
+
+    private static String firstUrl;
+    private static String secondUrl;
+    private static ConfigurableApplicationContext firstNode;
+    private static ConfigurableApplicationContext secondNode;
+
+    @BeforeAll
+    static void startNodes() {
+        var firstPort = freePort();
+        var secondPort = freePort();
+        firstUrl = "http://localhost:" + firstPort;
+        secondUrl = "http://localhost:" + secondPort;
+        firstNode = startNode(firstPort, firstUrl, secondUrl);
+        secondNode = startNode(secondPort, secondUrl, firstUrl);
+    }
+
+    @AfterEach
+    void tearDown() {
+        given().baseUri(firstUrl).delete("/cancelArea/0/0/999/999")
+            .then()
+            .statusCode(SC_OK);
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        secondNode.close();
+        firstNode.close();
+    }
+
+    @Test
+    public void should_know_all_nodes_on_every_node() {
+        assertNodes(firstUrl, firstUrl, secondUrl);
+        assertNodes(secondUrl, firstUrl, secondUrl);
+    }
+
+    @Test
+    public void should_reject_cluster_requests_without_secret() {
+        given().baseUri(firstUrl).body("http://localhost:1").post("/cluster/leave")
+            .then()
+            .statusCode(SC_UNAUTHORIZED);
+        given().baseUri(firstUrl).header(SECRET_HEADER, "wrong").get("/cluster/nodes")
+            .then()
+            .statusCode(SC_UNAUTHORIZED);
+    }
+
+    @Test
+    public void should_reject_forwarded_request_for_row_owned_by_other_node() {
+        var row = rowOwnedBy(firstUrl);
+
+        cluster(secondUrl).get(format("/cluster/isAvailable/%s/0", row))
+            .then()
+            .statusCode(SC_CONFLICT)
+            .and().body("row", equalTo(row));
+        cluster(firstUrl).get(format("/cluster/isAvailable/%s/0", row))
+            .then()
+            .statusCode(SC_OK);
+    }
+
+    @Test
+    public void should_forward_booking_to_owner_of_row() {
+        var row = rowOwnedBy(firstUrl);
+        var body = format("{\"name\": \"John's booking\", \"row\": %s, \"column\": 3}", row);
+
+        given().baseUri(secondUrl)
+            .body(body)
+            .contentType(JSON)
+            .post("/create")
+            .then()
+            .statusCode(SC_OK)
+            .and().body("bookingId", notNullValue())
+            .and().body("row", equalTo(row));
+        given().baseUri(secondUrl)
+            .body(body)
+            .contentType(JSON)
+            .post("/create")
+            .then()
+            .statusCode(SC_UNPROCESSABLE_ENTITY);
+        given().baseUri(firstUrl).get(format("/isAvailable/%s/3", row))
+            .then()
+            .statusCode(SC_OK)
+            .and().body("available", equalTo(false));
+        given().baseUri(secondUrl).get(format("/isAvailable/%s/3", row))
+            .then()
+            .statusCode(SC_OK)
+            .and().body("available", equalTo(false));
+    }
+
+    @Test
+    public void should_take_over_rows_of_leaving_node() {
+        var thirdPort = freePort();
+        var thirdUrl = "http://localhost:" + thirdPort;
+        var thirdNode = startNode(thirdPort, thirdUrl, firstUrl);
+        var row = rowOwnedBy(thirdUrl, ring(firstUrl, secondUrl, thirdUrl));
+        var newOwner = ring(firstUrl, secondUrl).ownerOf(row);
+
+        assertNodes(firstUrl, firstUrl, secondUrl, thirdUrl);
+        assertNodes(secondUrl, firstUrl, secondUrl, thirdUrl);
+        assertNodes(thirdUrl, firstUrl, secondUrl, thirdUrl);
+        cluster(thirdUrl).get(format("/cluster/isAvailable/%s/0", row))
+            .then()
+            .statusCode(SC_OK);
+        cluster(newOwner).get(format("/cluster/isAvailable/%s/0", row))
+            .then()
+            .statusCode(SC_CONFLICT);
+
+        thirdNode.close();
+
+        assertNodes(firstUrl, firstUrl, secondUrl);
+        assertNodes(secondUrl, firstUrl, secondUrl);
+        cluster(newOwner).get(format("/cluster/isAvailable/%s/0", row))
+            .then()
+            .statusCode(SC_OK);
+    }
+
+    @Test
+    public void should_free_position_on_owner_when_cancelled_through_other_node() {
+        var row = rowOwnedBy(firstUrl);
+        var body = format("{\"name\": \"John's booking\", \"row\": %s, \"column\": 4}", row);
+        given().baseUri(firstUrl).body(body).contentType(JSON).post("/create")
+            .then()
+            .statusCode(SC_OK);
+
+        given().baseUri(secondUrl).delete(format("/cancelByPosition/%s/4", row))
+            .then()
+            .statusCode(SC_OK);
+
+        given().baseUri(firstUrl).get(format("/isAvailable/%s/4", row))
+            .then()
+            .statusCode(SC_OK)
+            .and().body("available", equalTo(true));
+    }
+
+    @Test
+    public void should_free_rows_on_every_node_when_released_in_bulk() {
+        var row = rowOwnedBy(secondUrl);
+        var body = format("{\"name\": \"John's booking\", \"row\": %s, \"column\": 5}", row);
+        given().baseUri(secondUrl).body(body).contentType(JSON).post("/create")
+            .then()
+            .statusCode(SC_OK);
+
+        given().baseUri(firstUrl).delete(format("/cancelRow/%s", row))
+            .then()
+            .statusCode(SC_OK)
+            .and().body("released", equalTo(1));
+
+        given().baseUri(secondUrl).get(format("/isAvailable/%s/5", row))
+            .then()
+            .statusCode(SC_OK)
+            .and().body("available", equalTo(true));
+    }
+
+    @Test
+    public void should_reload_rows_when_removed_node_rejoins() {
+        var row = rowOwnedBy(secondUrl);
+        var body = format("{\"name\": \"John's booking\", \"row\": %s, \"column\": 6}", row);
+        given().baseUri(secondUrl).body(body).contentType(JSON).post("/create")
+            .then()
+            .statusCode(SC_OK);
+        // rezerwacja zwolniona z pominięciem drugiego węzła, tak jak zrobiłby to pierwszy węzeł po jego usunięciu
+        firstNode.getBean(BookingRepository.class).deleteByPosition(row, 6);
+
+        // pierwszy węzeł usuwa drugi, ale powiadomienie nie dociera do drugiego węzła
+        cluster(firstUrl).body(secondUrl).post("/cluster/leave")
+            .then()
+            .statusCode(SC_OK);
+
+        eventually(() -> assertNodes(firstUrl, firstUrl, secondUrl));
+        eventually(() -> given().baseUri(secondUrl).get(format("/isAvailable/%s/6", row))
+            .then()
+            .statusCode(SC_OK)
+            .and().body("available", equalTo(true)));
+    }
+
+    private static RequestSpecification cluster(String node) {
+        return given().baseUri(node).header(SECRET_HEADER, SECRET);
+    }
+
+    private static void assertNodes(String node, String... expected) {
+        cluster(node).get("/cluster/nodes")
+            .then()
+            .statusCode(SC_OK)
+            .and().body("$", containsInAnyOrder(expected));
+    }
+
+    private static void eventually(Runnable assertion) {
+        var deadline = System.currentTimeMillis() + 10_000;
+        while (true) {
+            try {
+                assertion.run();
+                return;
+            } catch (AssertionError e) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw e;
+                }
+            }
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static int rowOwnedBy(String node) {
+        return rowOwnedBy(node, ring(firstUrl, secondUrl));
+    }
+
+    private static int rowOwnedBy(String node, ConsistentHashRing ring) {
+        return IntStream.range(0, 1000)
+            .filter(row -> ring.ownerOf(row).equals(node))
+            .findFirst()
+            .orElseThrow();
+    }
+
+    private static ConsistentHashRing ring(String... nodes) {
+        var ring = new ConsistentHashRing(128);
+        for (var node : nodes) {
+            ring = ring.withNode(node);
+        }
+        return ring;
+    }
+
+    private static ConfigurableApplicationContext startNode(int port, String nodeUrl, String seed) {
+        return new SpringApplicationBuilder(BookingSystemApplication.class).run(
+            "--server.port=" + port,
+            "--booking.cluster.enabled=true",
+            "--booking.cluster.node-url=" + nodeUrl,
+            "--booking.cluster.seeds=" + seed,
+            "--booking.cluster.heartbeat-interval=500",
+            "--booking.cluster.secret=" + SECRET);
+    }
+
+    private static int freePort() {
+        try (var socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
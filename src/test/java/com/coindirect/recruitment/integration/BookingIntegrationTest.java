@@ -16,6 +16,7 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import static io.restassured.RestAssured.given;
 import static io.restassured.http.ContentType.JSON;
 import static org.apache.http.HttpStatus.SC_OK;
+import static org.apache.http.HttpStatus.SC_UNPROCESSABLE_ENTITY;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
@@ -104,4 +105,53 @@ public class BookingIntegrationTest {
             .statusCode(SC_OK)
             .and().body("available", equalTo(false));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void should_free_position_when_booking_cancelled() {
+        var booking = bookingRepository.save(new Booking("Elton's booking", 1, 1));
+
+        given()
+            .when().delete(String.format("/cancelByBookingId/%s", booking.getId()))
+            .then()
+            .statusCode(SC_OK);
+        given()
+            .when().get("isAvailable/1/1")
+            .then()
+            .statusCode(SC_OK)
+            .and().body("available", equalTo(true));
+        given()
+            .when().delete("/cancelByPosition/1/1")
+            .then()
+            .statusCode(SC_UNPROCESSABLE_ENTITY);
+    }
+
+    @Test
+    public void should_release_bookings_in_area() {
+        bookingRepository.save(new Booking("Elton's booking", 1, 1));
+        bookingRepository.save(new Booking("Elton's booking", 2, 2));
+        bookingRepository.save(new Booking("Elton's booking", 3, 3));
+
+        given()
+            .when().delete("/cancelArea/1/1/2/2")
+            .then()
+            .statusCode(SC_OK)
+            .and().body("released", equalTo(2));
+        given()
+            .when().get("isAvailable/3/3")
+            .then()
+            .statusCode(SC_OK)
+            .and().body("available", equalTo(false));
+    }
+
+    @Test
+    public void should_document_booking_responses_as_booking_dto() {
+        given()
+            .when()
+            .get("/v3/api-docs")
+            .then()
+            .statusCode(SC_OK)
+            .and().body("paths.'/create'.post.responses.'200'.content.'*/*'.schema.'$ref'", equalTo("#/components/schemas/BookingDto"))
+            .and().body("paths.'/getByBookingId/{bookingId}'.get.responses.'200'.content.'*/*'.schema.'$ref'", equalTo("#/components/schemas/BookingDto"))
+            .and().body("paths.'/getByPosition/{row}/{column}'.get.responses.'200'.content.'*/*'.schema.'$ref'", equalTo("#/components/schemas/BookingDto"));
+    }
+}
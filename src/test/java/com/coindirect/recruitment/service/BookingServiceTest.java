@@ -160,4 +160,71 @@ class BookingServiceTest {
         // then
         assertFalse(isAvailable);
     }
+
+    @Test
+    void should_cancel_booking_by_id() {
+        // given
+        var id = randomUUID();
+        given(bookingRepository.deleteBookingById(id)).willReturn(1);
+
+        // when
+        bookingService.cancelBookingById(id);
+
+        // then
+        then(bookingRepository).should().deleteBookingById(id);
+        then(bookingRepository).shouldHaveNoMoreInteractions();
+    }
+
+    @Test
+    void should_not_cancel_booking_by_id_and_throw_when_booking_does_not_exist() {
+        // given
+        var id = randomUUID();
+        given(bookingRepository.deleteBookingById(id)).willReturn(0);
+
+        // then
+        assertThrows(BookingNotFoundException.class, () -> bookingService.cancelBookingById(id));
+    }
+
+    @Test
+    void should_cancel_booking_by_position() {
+        // given
+        given(bookingRepository.deleteByPosition(1, 1)).willReturn(1);
+
+        // when
+        bookingService.cancelBookingByPosition(1, 1);
+
+        // then
+        then(bookingRepository).should().deleteByPosition(1, 1);
+        then(bookingRepository).shouldHaveNoMoreInteractions();
+    }
+
+    @Test
+    void should_not_cancel_booking_by_position_and_throw_when_booking_does_not_exist() {
+        // given
+        given(bookingRepository.deleteByPosition(1, 1)).willReturn(0);
+
+        // then
+        assertThrows(BookingNotFoundException.class, () -> bookingService.cancelBookingByPosition(1, 1));
+    }
+
+    @Test
+    void should_release_whole_row_with_single_delete() {
+        // given
+        given(bookingRepository.deleteInArea(2, 0, 2, 999)).willReturn(3);
+
+        // when
+        var released = bookingService.cancelBookingsInRow(2);
+
+        // then
+        assertEquals(3, released);
+        then(bookingRepository).should().deleteInArea(2, 0, 2, 999);
+        then(bookingRepository).shouldHaveNoMoreInteractions();
+    }
+
+    @Test
+    void should_not_release_area_and_throw_when_area_is_inverted() {
+        // then
+        assertThrows(IllegalArgumentException.class, () -> bookingService.cancelBookingsInArea(5, 5, 4, 6));
+        then(bookingRepository).shouldHaveNoInteractions();
+    }
 }
\ No newline at end of file